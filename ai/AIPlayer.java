@@ -7,6 +7,11 @@ import game.Connect4;
  */
 public class AIPlayer {
     private final int MAX_DEPTH = 4;
+    private static final int INFINITY = 1_000_000;
+    private static final int ASPIRATION_WINDOW = 50;
+    // Centre columns first, as they take part in the most lines
+    private static final int[] COLUMN_ORDER = {3, 2, 4, 1, 5, 0, 6};
+    private long nodes;
     private Connect4 connect4Game;
 
     public int chooseMove() {
@@ -24,95 +29,89 @@ public class AIPlayer {
 
     /**
      * Finds the best move for the AI player.
+     * Deepens one ply at a time, searching each iteration inside an aspiration window
+     * centred on the previous score and re-searching when the score falls outside it.
      * @return The column number of the best move.
      */
     public int findBestMove() {
-        Move bestMove = minimax(0, Integer.MIN_VALUE, Integer.MAX_VALUE, true);
-        System.out.println("Best move found: Column " + bestMove.getCol() + " with score " + bestMove.getScore());
+        nodes = 0;
+        Move bestMove = null;
+        for (int depth = 1; depth <= MAX_DEPTH; depth++) {
+            int alpha = -INFINITY;
+            int beta = INFINITY;
+            int pvCol = -1;
+            if (bestMove != null) {
+                alpha = bestMove.getScore() - ASPIRATION_WINDOW;
+                beta = bestMove.getScore() + ASPIRATION_WINDOW;
+                pvCol = bestMove.getCol();
+            }
+
+            Move move = negamax(depth, alpha, beta, 1, pvCol);
+            while (move.getScore() <= alpha || move.getScore() >= beta) {
+                if (move.getScore() <= alpha) {
+                    alpha = -INFINITY;
+                } else {
+                    beta = INFINITY;
+                }
+                move = negamax(depth, alpha, beta, 1, pvCol);
+            }
+            bestMove = move;
+        }
+        System.out.println("Best move found: Column " + bestMove.getCol() + " with score " + bestMove.getScore() + " after " + nodes + " nodes");
         return bestMove.getCol();
     }
 
     /**
-     * Performs the minimax algorithm to find the best move.
-     * @param depth The current depth of the search.
+     * Performs a negamax search with principal variation search.
+     * The first move is searched with the full window and the rest with a null window,
+     * re-searching any move that turns out to be better than the current best.
+     * @param depth The remaining depth of the search.
      * @param alpha The alpha value for alpha-beta pruning.
      * @param beta The beta value for alpha-beta pruning.
-     * @param isMaximizing Indicates if it's the maximising player's turn.
-     * @return The best move found.
+     * @param color 1 if it's the AI player's turn, -1 if it's the human player's turn.
+     * @param firstCol The column to search first, or -1 to use the default order.
+     * @return The best move found, scored for the player to move.
      */
-    private Move minimax(int depth, int alpha, int beta, boolean isMaximizing) {
-        if (depth == MAX_DEPTH || connect4Game.isGameOver()) {
-            return new Move(scoreBoard(), -1);
+    private Move negamax(int depth, int alpha, int beta, int color, int firstCol) {
+        nodes++;
+        if (depth == 0 || connect4Game.isGameOver()) {
+            return new Move(color * scoreBoard(), -1);
         }
 
-        if (isMaximizing) {
-            return max(depth, alpha, beta);
-        } else {
-            return min(depth, alpha, beta);
-        }
-    }
-
-    /**
-     * Performs the max part of the minimax algorithm.
-     * @param depth The current depth of the search.
-     * @param alpha The alpha value for alpha-beta pruning.
-     * @param beta The beta value for alpha-beta pruning.
-     * @return The best move found.
-     */
-    private Move max(int depth, int alpha, int beta) {
-        int bestScore = Integer.MIN_VALUE;
+        int player = color == 1 ? Connect4.AI_PLAYER : Connect4.HUMAN_PLAYER;
+        int bestScore = -INFINITY;
         int bestCol = -1;
+        boolean firstMove = true;
 
-        for (int col = 0; col < Connect4.COLUMNS; col++) {
-            if (connect4Game.isValidMove(col)) {
-                connect4Game.makeMove(col, Connect4.AI_PLAYER);
-                int score = minimax(depth + 1, alpha, beta, false).getScore();
-                connect4Game.undoMove(col);
-
-                if (score > bestScore) {
-                    bestScore = score;
-                    bestCol = col;
-                }
+        for (int i = -1; i < COLUMN_ORDER.length; i++) {
+            int col = i < 0 ? firstCol : COLUMN_ORDER[i];
+            if (col < 0 || (i >= 0 && col == firstCol) || !connect4Game.isValidMove(col)) {
+                continue;
+            }
 
-                alpha = Math.max(alpha, score);
-                if (beta <= alpha) {
-                    break;
+            connect4Game.makeMove(col, player);
+            int score;
+            if (firstMove) {
+                score = -negamax(depth - 1, -beta, -alpha, -color, -1).getScore();
+                firstMove = false;
+            } else {
+                score = -negamax(depth - 1, -alpha - 1, -alpha, -color, -1).getScore();
+                if (score > alpha && score < beta) {
+                    score = -negamax(depth - 1, -beta, -score, -color, -1).getScore();
                 }
             }
-        }
-        System.out.println("Maximizing at depth " + depth + ", best score: " + bestScore + ", best column: " + bestCol);
-        return new Move(bestScore, bestCol);
-    }
+            connect4Game.undoMove(col);
 
-    /**
-     * Performs the min part of the minimax algorithm.
-     * @param depth The current depth of the search.
-     * @param alpha The alpha value for alpha-beta pruning.
-     * @param beta The beta value for alpha-beta pruning.
-     * @return The best move found.
-     */
-    private Move min(int depth, int alpha, int beta) {
-        int bestScore = Integer.MAX_VALUE;
-        int bestCol = -1;
-
-        for (int col = 0; col < Connect4.COLUMNS; col++) {
-            if (connect4Game.isValidMove(col)) {
-                connect4Game.makeMove(col, Connect4.HUMAN_PLAYER);
-                int score = minimax(depth + 1, alpha, beta, true).getScore();
-                connect4Game.undoMove(col);
-
-                if (score < bestScore) {
-                    bestScore = score;
-                    bestCol = col;
-                }
+            if (score > bestScore) {
+                bestScore = score;
+                bestCol = col;
+            }
 
-                beta = Math.min(beta, score);
-                if (beta <= alpha) {
-                    break;
-                }
+            alpha = Math.max(alpha, score);
+            if (alpha >= beta) {
+                break;
             }
         }
-        System.out.println("Minimizing at depth " + depth + ", best score: " + bestScore + ", best column: " + bestCol);
         return new Move(bestScore, bestCol);
     }
 
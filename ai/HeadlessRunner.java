@@ -0,0 +1,143 @@
+package ai;
+
+import game.Connect4;
+import game.Connect4Snapshot;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * HeadlessRunner plays the MCTS engine against the minimax AIPlayer without the GUI
+ * and reports the results and playout rate. Before the match it checks that MCTS reuses
+ * its tree at the default budget, and after every move that a snapshot of the game
+ * agrees with the game itself.
+ * Usage: java ai.HeadlessRunner [games] [mctsMillisPerMove] [mctsThreads]
+ */
+public class HeadlessRunner {
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        long millisPerMove = args.length > 1 ? Long.parseLong(args[1]) : 500;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+
+        PrintStream out = System.out;
+        PrintStream quiet = new PrintStream(OutputStream.nullOutputStream());
+        int mctsWins = 0;
+        int minimaxWins = 0;
+        int draws = 0;
+        long totalPlayouts = 0;
+        double totalRate = 0;
+        int mctsMoves = 0;
+        int reusableMoves = 0;
+        int reusedMoves = 0;
+        int poolFullMoves = 0;
+
+        System.setOut(quiet);
+        try {
+            checkTreeReuse();
+        } finally {
+            System.setOut(out);
+        }
+
+        for (int i = 0; i < games; i++) {
+            Connect4 game = new Connect4();
+            game.setVerbose(false);
+            // AIPlayer always maximises for AI_PLAYER, so MCTS takes the human side
+            AIPlayer minimax = new AIPlayer(game);
+            MCTSPlayer mcts = new MCTSPlayer(game, Connect4.HUMAN_PLAYER);
+            mcts.setTimeLimit(millisPerMove);
+            mcts.setThreads(threads);
+
+            boolean mctsTurn = i % 2 == 0;
+            boolean mctsMoved = false;
+            System.setOut(quiet);
+            try {
+                while (!game.isGameOver()) {
+                    if (mctsTurn) {
+                        game.makeMove(mcts.findBestMove(), Connect4.HUMAN_PLAYER);
+                        totalPlayouts += mcts.getLastPlayouts();
+                        totalRate += mcts.getLastPlayoutsPerSecond();
+                        mctsMoves++;
+                        if (mctsMoved) {
+                            reusableMoves++;
+                            if (mcts.getLastReusedVisits() > 0) {
+                                reusedMoves++;
+                            }
+                        }
+                        if (mcts.wasLastPoolFull()) {
+                            poolFullMoves++;
+                        }
+                        mctsMoved = true;
+                    } else {
+                        game.makeMove(minimax.findBestMove(), Connect4.AI_PLAYER);
+                    }
+                    mctsTurn = !mctsTurn;
+                    checkSnapshot(game, mctsTurn ? Connect4.HUMAN_PLAYER : Connect4.AI_PLAYER);
+                }
+            } finally {
+                System.setOut(out);
+            }
+
+            int winner = game.getWinner();
+            String result;
+            if (winner == Connect4.HUMAN_PLAYER) {
+                mctsWins++;
+                result = "MCTS wins";
+            } else if (winner == Connect4.AI_PLAYER) {
+                minimaxWins++;
+                result = "minimax wins";
+            } else {
+                draws++;
+                result = "draw";
+            }
+            out.println("Game " + (i + 1) + " (" + (i % 2 == 0 ? "MCTS" : "minimax") + " first): " + result);
+        }
+
+        out.println("MCTS " + mctsWins + " - minimax " + minimaxWins + " - draws " + draws);
+        if (mctsMoves > 0) {
+            out.println("MCTS averaged " + totalPlayouts / mctsMoves + " playouts per move, "
+                    + Math.round(totalRate / mctsMoves) + " playouts/s");
+            out.println("MCTS reused its tree on " + reusedMoves + " of " + reusableMoves
+                    + " later moves; node pool filled on " + poolFullMoves + " of " + mctsMoves + " moves");
+        }
+    }
+
+    /**
+     * Checks that MCTS at its default budget keeps its tree across a move and a reply.
+     */
+    private static void checkTreeReuse() {
+        Connect4 game = new Connect4();
+        game.setVerbose(false);
+        MCTSPlayer mcts = new MCTSPlayer(game, Connect4.HUMAN_PLAYER);
+        game.makeMove(mcts.findBestMove(), Connect4.HUMAN_PLAYER);
+        game.makeMove(new AIPlayer(game).findBestMove(), Connect4.AI_PLAYER);
+        mcts.findBestMove();
+        if (mcts.getLastReusedVisits() == 0) {
+            throw new IllegalStateException("MCTS did not reuse its tree after a move and a reply");
+        }
+        if (mcts.wasLastPoolFull()) {
+            throw new IllegalStateException("MCTS filled its node pool at the default budget");
+        }
+    }
+
+    /**
+     * Checks that a snapshot records the game's board, winner and side to move.
+     * The engines search by making and undoing moves on the game, so this catches
+     * state left behind by the search.
+     * @param game The game to check.
+     * @param toMove The player who moves next.
+     */
+    private static void checkSnapshot(Connect4 game, int toMove) {
+        Connect4Snapshot snapshot = game.snapshot();
+        if (snapshot.getWinner() != game.getWinner()) {
+            throw new IllegalStateException("Snapshot winner " + snapshot.getWinner() + " but game winner " + game.getWinner());
+        }
+        if (snapshot.getCurrentPlayer() != toMove) {
+            throw new IllegalStateException("Snapshot turn " + snapshot.getCurrentPlayer() + " but player " + toMove + " is to move");
+        }
+        if (!Arrays.deepEquals(snapshot.toGame().getBoard(), game.getBoard())) {
+            throw new IllegalStateException("Game restored from snapshot has a different board");
+        }
+    }
+}
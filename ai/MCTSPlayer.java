@@ -0,0 +1,520 @@
+package ai;
+
+import game.Connect4;
+import game.Connect4Snapshot;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * MCTSPlayer class represents a Monte Carlo Tree Search player for the Connect4 game.
+ * It uses UCT selection with random playouts on a bitboard, keeps its tree in
+ * primitive arrays and reuses the subtree of the position it is asked about next,
+ * compacting it to the front of the node pool so the pool never fills with dead nodes.
+ * With several threads each thread grows its own tree (root parallelisation) and the
+ * root visit counts are summed to pick the move, so threads never share mutable state.
+ */
+public class MCTSPlayer {
+    private static final int HEIGHT = Connect4.ROWS + 1;
+    private static final int CELLS = Connect4.ROWS * Connect4.COLUMNS;
+    private static final double EXPLORATION = 1.4;
+    private static final int DEFAULT_POOL_SIZE = 1 << 20;
+    // A leaf is expanded once it has this many visits, so the tree grows by about one node per playout
+    private static final int EXPANSION_VISITS = 8;
+
+    private static final byte NOT_TERMINAL = 0;
+    private static final byte TERMINAL_WIN = 1;
+    private static final byte TERMINAL_DRAW = 2;
+
+    private final Connect4 connect4Game;
+    private final int player;
+
+    private long timeLimitMillis = 1000;
+    private long maxPlayouts = Long.MAX_VALUE;
+    private int threads = 1;
+    private SearchTree[] trees = new SearchTree[0];
+
+    private long lastPlayouts;
+    private double lastPlayoutsPerSecond;
+    private long lastReusedVisits;
+    private boolean lastPoolFull;
+
+    /**
+     * Constructor for MCTSPlayer class, playing as the AI player.
+     * @param game The Connect4 game instance.
+     */
+    public MCTSPlayer(Connect4 game) {
+        this(game, Connect4.AI_PLAYER);
+    }
+
+    /**
+     * Constructor for MCTSPlayer class.
+     * @param game The Connect4 game instance.
+     * @param player The player this engine moves for.
+     */
+    public MCTSPlayer(Connect4 game, int player) {
+        this.connect4Game = game;
+        this.player = player;
+    }
+
+    public int chooseMove() {
+        return findBestMove();
+    }
+
+    /**
+     * Sets the time budget for each decision.
+     * @param timeLimitMillis The time limit in milliseconds.
+     */
+    public void setTimeLimit(long timeLimitMillis) {
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    /**
+     * Sets the playout budget for each decision, shared by all threads.
+     * @param maxPlayouts The maximum number of playouts.
+     */
+    public void setMaxPlayouts(long maxPlayouts) {
+        this.maxPlayouts = maxPlayouts;
+    }
+
+    /**
+     * Sets the number of threads running playouts, each with its own tree and node pool.
+     * @param threads The number of playout threads.
+     */
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Gets the number of playouts run for the last decision.
+     * @return The playout count.
+     */
+    public long getLastPlayouts() {
+        return lastPlayouts;
+    }
+
+    /**
+     * Gets the playout rate of the last decision.
+     * @return The playouts per second.
+     */
+    public double getLastPlayoutsPerSecond() {
+        return lastPlayoutsPerSecond;
+    }
+
+    /**
+     * Gets the number of root visits kept from earlier searches at the start of the last decision.
+     * @return The reused visits, summed over all trees; 0 if no subtree was reused.
+     */
+    public long getLastReusedVisits() {
+        return lastReusedVisits;
+    }
+
+    /**
+     * Checks if any tree ran out of nodes during the last decision.
+     * A tree whose pool is full stops searching rather than continuing with a frozen tree.
+     * @return True if a node pool filled up.
+     */
+    public boolean wasLastPoolFull() {
+        return lastPoolFull;
+    }
+
+    /**
+     * Finds the best move for this player by searching until the time or playout budget runs out.
+     * @return The column number of the best move, or -1 if there is none.
+     */
+    public int findBestMove() {
+        if (trees.length != threads) {
+            trees = new SearchTree[threads];
+            for (int i = 0; i < threads; i++) {
+                trees[i] = new SearchTree(DEFAULT_POOL_SIZE);
+            }
+        }
+
+        // Snapshots use the same bit layout as the search
+        Connect4Snapshot snapshot = connect4Game.snapshot();
+        long position = snapshot.getStones(player);
+        long mask = snapshot.getMask();
+        lastReusedVisits = 0;
+        for (SearchTree tree : trees) {
+            tree.setRoot(position, mask);
+            lastReusedVisits += tree.visits[tree.root];
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + timeLimitMillis * 1_000_000L;
+        AtomicLong playouts = new AtomicLong();
+        if (threads == 1) {
+            trees[0].search(deadline, playouts);
+        } else {
+            Thread[] workers = new Thread[threads];
+            for (int i = 0; i < threads; i++) {
+                SearchTree tree = trees[i];
+                workers[i] = new Thread(() -> tree.search(deadline, playouts));
+                workers[i].start();
+            }
+            for (Thread worker : workers) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        long elapsed = Math.max(1, System.nanoTime() - start);
+        lastPlayouts = playouts.get();
+        lastPlayoutsPerSecond = lastPlayouts * 1e9 / elapsed;
+
+        long[] columnVisits = new long[Connect4.COLUMNS];
+        lastPoolFull = false;
+        for (SearchTree tree : trees) {
+            tree.addRootVisits(columnVisits);
+            lastPoolFull |= tree.full;
+        }
+        int bestCol = -1;
+        long bestVisits = -1;
+        for (int col = 0; col < Connect4.COLUMNS; col++) {
+            if (canPlay(mask, col) && columnVisits[col] > bestVisits) {
+                bestVisits = columnVisits[col];
+                bestCol = col;
+            }
+        }
+        System.out.println("Best move found: Column " + bestCol + " after " + lastPlayouts + " playouts ("
+                + Math.round(lastPlayoutsPerSecond) + " playouts/s, " + lastReusedVisits + " reused"
+                + (lastPoolFull ? ", node pool full" : "") + ")");
+        return bestCol;
+    }
+
+    /**
+     * Claims one playout from the shared budget.
+     * @param playouts The shared playout counter.
+     * @return True if the playout may run, false if the budget is used up.
+     */
+    private boolean claimPlayout(AtomicLong playouts) {
+        long claimed;
+        do {
+            claimed = playouts.get();
+            if (claimed >= maxPlayouts) {
+                return false;
+            }
+        } while (!playouts.compareAndSet(claimed, claimed + 1));
+        return true;
+    }
+
+    /**
+     * SearchTree class represents one search tree, used by a single thread at a time.
+     */
+    private class SearchTree {
+        // Node pool: node i's children are stored contiguously from childStart[i]
+        private final int poolSize;
+        private final int[] childStart;
+        private final byte[] childCount;
+        private final byte[] move;
+        private final byte[] terminal;
+        private final int[] visits;
+        private final int[] score;
+        // Scratch space for compaction: the new index of each kept node, or -1
+        private final int[] forward;
+        private int size;
+        private boolean full;
+        private int root = -1;
+        private long rootPosition;
+        private long rootMask;
+
+        /**
+         * Constructor for SearchTree class.
+         * @param poolSize The maximum number of nodes in the tree.
+         */
+        SearchTree(int poolSize) {
+            this.poolSize = poolSize;
+            childStart = new int[poolSize];
+            childCount = new byte[poolSize];
+            move = new byte[poolSize];
+            terminal = new byte[poolSize];
+            visits = new int[poolSize];
+            score = new int[poolSize];
+            forward = new int[poolSize];
+        }
+
+        /**
+         * Moves the root to the given position, reusing the matching subtree from the
+         * previous search when the position is the old root, a child or a grandchild of it.
+         * @param position The stones of the player to move.
+         * @param mask All stones on the board.
+         */
+        void setRoot(long position, long mask) {
+            int reused = -1;
+            if (root >= 0) {
+                reused = findDescendant(root, rootPosition, rootMask, position, mask, 2);
+            }
+            if (reused >= 0) {
+                compact(reused);
+            } else {
+                size = 1;
+                childCount[0] = 0;
+                terminal[0] = NOT_TERMINAL;
+                visits[0] = 0;
+                score[0] = 0;
+                move[0] = -1;
+            }
+            root = 0;
+            full = false;
+            rootPosition = position;
+            rootMask = mask;
+        }
+
+        /**
+         * Moves the subtree below a node to the front of the pool, with that node at index 0,
+         * and frees everything else. Children are always stored after their parent, so one
+         * forward pass finds the kept nodes and a second slides them down in order.
+         * @param newRoot The node to keep as the root.
+         */
+        private void compact(int newRoot) {
+            Arrays.fill(forward, newRoot, size, -1);
+            int kept = 0;
+            forward[newRoot] = kept++;
+            for (int node = newRoot; node < size; node++) {
+                if (forward[node] < 0) {
+                    continue;
+                }
+                if (node != newRoot) {
+                    forward[node] = kept++;
+                }
+                for (int i = 0; i < childCount[node]; i++) {
+                    forward[childStart[node] + i] = 0;
+                }
+            }
+
+            for (int node = newRoot; node < size; node++) {
+                int target = forward[node];
+                if (target < 0) {
+                    continue;
+                }
+                childStart[target] = childCount[node] > 0 ? forward[childStart[node]] : 0;
+                childCount[target] = childCount[node];
+                move[target] = move[node];
+                terminal[target] = terminal[node];
+                visits[target] = visits[node];
+                score[target] = score[node];
+            }
+            size = kept;
+        }
+
+        /**
+         * Searches the tree below a node for the given position.
+         * @return The matching node, or -1 if it is not in the tree.
+         */
+        private int findDescendant(int node, long nodePosition, long nodeMask, long position, long mask, int depth) {
+            if (nodePosition == position && nodeMask == mask) {
+                return node;
+            }
+            if (depth == 0 || Long.bitCount(nodeMask) >= Long.bitCount(mask)) {
+                return -1;
+            }
+            for (int i = 0; i < childCount[node]; i++) {
+                int child = childStart[node] + i;
+                long childMask = nodeMask | (nodeMask + bottomMask(move[child]));
+                int found = findDescendant(child, nodePosition ^ nodeMask, childMask, position, mask, depth - 1);
+                if (found >= 0) {
+                    return found;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Adds the visit count of each root move to a per-column total.
+         * @param columnVisits The totals, indexed by column.
+         */
+        void addRootVisits(long[] columnVisits) {
+            for (int i = 0; i < childCount[root]; i++) {
+                int child = childStart[root] + i;
+                columnVisits[move[child]] += visits[child];
+            }
+        }
+
+        /**
+         * Runs select, expand, playout and backpropagate iterations until the budget runs out
+         * or the node pool is full.
+         * @param deadline The System.nanoTime() deadline.
+         * @param playouts The shared playout counter.
+         */
+        void search(long deadline, AtomicLong playouts) {
+            int[] path = new int[CELLS + 2];
+            int[] legal = new int[Connect4.COLUMNS];
+            while (!full && System.nanoTime() < deadline && claimPlayout(playouts)) {
+                int node = root;
+                long position = rootPosition;
+                long mask = rootMask;
+                int length = 0;
+                path[length++] = node;
+                visits[node]++;
+
+                while (terminal[node] == NOT_TERMINAL) {
+                    if (childCount[node] == 0) {
+                        if (visits[node] < EXPANSION_VISITS && node != root) {
+                            break;
+                        }
+                        if (!expand(node, position, mask)) {
+                            break;
+                        }
+                    }
+                    int child = selectChild(node);
+                    position ^= mask;
+                    mask |= mask + bottomMask(move[child]);
+                    node = child;
+                    path[length++] = node;
+                    visits[node]++;
+                }
+
+                int result;
+                if (terminal[node] == TERMINAL_WIN) {
+                    result = 2;
+                } else if (terminal[node] == TERMINAL_DRAW) {
+                    result = 1;
+                } else {
+                    result = playout(position, mask, legal);
+                }
+
+                for (int i = length - 1; i >= 0; i--) {
+                    score[path[i]] += result;
+                    result = 2 - result;
+                }
+            }
+        }
+
+        /**
+         * Adds a child for every legal move of a node.
+         * @return True if the node was expanded, false if it has no moves or the pool is full.
+         */
+        private boolean expand(int node, long position, long mask) {
+            int count = 0;
+            for (int col = 0; col < Connect4.COLUMNS; col++) {
+                if (canPlay(mask, col)) {
+                    count++;
+                }
+            }
+            if (count == 0) {
+                return false;
+            }
+            if (size + count > poolSize) {
+                full = true;
+                return false;
+            }
+
+            int start = size;
+            size += count;
+            int moves = Long.bitCount(mask);
+            int child = start;
+            for (int col = 0; col < Connect4.COLUMNS; col++) {
+                if (canPlay(mask, col)) {
+                    long played = (mask + bottomMask(col)) & columnMask(col);
+                    move[child] = (byte) col;
+                    childCount[child] = 0;
+                    visits[child] = 0;
+                    score[child] = 0;
+                    if (isWin(position | played)) {
+                        terminal[child] = TERMINAL_WIN;
+                    } else if (moves + 1 == CELLS) {
+                        terminal[child] = TERMINAL_DRAW;
+                    } else {
+                        terminal[child] = NOT_TERMINAL;
+                    }
+                    child++;
+                }
+            }
+            childStart[node] = start;
+            childCount[node] = (byte) count;
+            return true;
+        }
+
+        /**
+         * Selects the child of a node with the highest UCT value.
+         * @return The selected child.
+         */
+        private int selectChild(int node) {
+            double logParent = Math.log(visits[node]);
+            int best = -1;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < childCount[node]; i++) {
+                int child = childStart[node] + i;
+                if (visits[child] == 0) {
+                    return child;
+                }
+                double value = score[child] / (2.0 * visits[child]) + EXPLORATION * Math.sqrt(logParent / visits[child]);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * Plays random moves until the game ends.
+     * @param position The stones of the player to move.
+     * @param mask All stones on the board.
+     * @param legal Scratch space for the legal columns.
+     * @return 2 if the player who moved into this position wins, 1 for a draw, 0 for a loss.
+     */
+    private static int playout(long position, long mask, int[] legal) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int ply = 0; ; ply++) {
+            if (Long.bitCount(mask) == CELLS) {
+                return 1;
+            }
+            int count = 0;
+            for (int col = 0; col < Connect4.COLUMNS; col++) {
+                if (canPlay(mask, col)) {
+                    legal[count++] = col;
+                }
+            }
+            int col = legal[random.nextInt(count)];
+            long played = (mask + bottomMask(col)) & columnMask(col);
+            if (isWin(position | played)) {
+                return ply % 2 == 0 ? 0 : 2;
+            }
+            position ^= mask;
+            mask |= played;
+        }
+    }
+
+    private static boolean canPlay(long mask, int col) {
+        return (mask & topMask(col)) == 0;
+    }
+
+    /**
+     * Checks a bitboard for four in a row in any direction.
+     * @param position The stones of one player.
+     * @return True if the stones contain a line of four.
+     */
+    private static boolean isWin(long position) {
+        long m = position & (position >> HEIGHT);
+        if ((m & (m >> 2 * HEIGHT)) != 0) {
+            return true;
+        }
+        m = position & (position >> (HEIGHT - 1));
+        if ((m & (m >> 2 * (HEIGHT - 1))) != 0) {
+            return true;
+        }
+        m = position & (position >> (HEIGHT + 1));
+        if ((m & (m >> 2 * (HEIGHT + 1))) != 0) {
+            return true;
+        }
+        m = position & (position >> 1);
+        return (m & (m >> 2)) != 0;
+    }
+
+    private static long bottomMask(int col) {
+        return 1L << (col * HEIGHT);
+    }
+
+    private static long topMask(int col) {
+        return 1L << (Connect4.ROWS - 1 + col * HEIGHT);
+    }
+
+    private static long columnMask(int col) {
+        return ((1L << Connect4.ROWS) - 1) << (col * HEIGHT);
+    }
+}
@@ -10,6 +10,9 @@ public class Connect4 {
     private boolean gameOver;
     private int winner;
     private int currentPlayer;
+    private long humanStones;
+    private long aiStones;
+    private int moveCount;
 
     /**
      * Constructor for Connect4 class.
@@ -23,6 +26,43 @@ public class Connect4 {
         initializeBoard();
     }
 
+    /**
+     * Constructor for Connect4 class.
+     * Initialises the board and game state from a snapshot.
+     * @param snapshot The position to start from.
+     */
+    public Connect4(Connect4Snapshot snapshot) {
+        board = new int[ROWS][COLUMNS];
+        restore(snapshot);
+    }
+
+    /**
+     * Takes an immutable snapshot of the current position.
+     * A Connect4 instance should stay on one thread; hand other threads the snapshot instead.
+     * @return The snapshot.
+     */
+    public Connect4Snapshot snapshot() {
+        return new Connect4Snapshot(humanStones, aiStones, moveCount, currentPlayer, winner);
+    }
+
+    /**
+     * Restores the position held in a snapshot.
+     * @param snapshot The position to restore.
+     */
+    public void restore(Connect4Snapshot snapshot) {
+        for (int row = 0; row < ROWS; row++) {
+            for (int col = 0; col < COLUMNS; col++) {
+                board[row][col] = snapshot.getCell(row, col);
+            }
+        }
+        humanStones = snapshot.getStones(HUMAN_PLAYER);
+        aiStones = snapshot.getStones(AI_PLAYER);
+        moveCount = snapshot.getMoveCount();
+        currentPlayer = snapshot.getCurrentPlayer();
+        winner = snapshot.getWinner();
+        gameOver = winner != EMPTY || moveCount == ROWS * COLUMNS;
+    }
+
     /**
      * Initialises the board with empty cells.
      */
@@ -67,7 +107,7 @@ public class Connect4 {
     public boolean makeMove(int col, int player) {
         for (int row = ROWS - 1; row >= 0; row--) {
             if (board[row][col] == EMPTY) {
-                board[row][col] = player;
+                placePiece(row, col, player);
                 // Replace direct calls with the log method
                 log("Player " + player + " placed a piece in column " + col);
                 
@@ -90,17 +130,49 @@ public class Connect4 {
     
     /**
      * Undoes the last move made on the board.
+     * The player whose piece is removed gets the turn back, and the winner is recomputed.
      * @param col The column of the last move.
      */
     public void undoMove(int col) {
         for (int row = 0; row < ROWS; row++) {
             if (board[row][col] != EMPTY) {
+                long bit = Connect4Snapshot.bit(row, col);
+                humanStones &= ~bit;
+                aiStones &= ~bit;
+                moveCount--;
+                currentPlayer = board[row][col];
                 board[row][col] = EMPTY;
+                if (Connect4Snapshot.hasFour(humanStones)) {
+                    winner = HUMAN_PLAYER;
+                } else if (Connect4Snapshot.hasFour(aiStones)) {
+                    winner = AI_PLAYER;
+                } else {
+                    winner = EMPTY;
+                }
+                gameOver = winner != EMPTY || moveCount == ROWS * COLUMNS;
                 break;
             }
         }
     }
 
+    /**
+     * Places a piece on the board and in the packed copy used for snapshots,
+     * then passes the turn to the other player.
+     * @param row The row of the piece.
+     * @param col The column of the piece.
+     * @param player The player placing the piece.
+     */
+    private void placePiece(int row, int col, int player) {
+        board[row][col] = player;
+        if (player == HUMAN_PLAYER) {
+            humanStones |= Connect4Snapshot.bit(row, col);
+        } else if (player == AI_PLAYER) {
+            aiStones |= Connect4Snapshot.bit(row, col);
+        }
+        moveCount++;
+        currentPlayer = player == HUMAN_PLAYER ? AI_PLAYER : HUMAN_PLAYER;
+    }
+
     /**
      * Checks if the game is over.
      * @return True if the game is over, false otherwise.
@@ -128,7 +200,7 @@ public class Connect4 {
         // Find the lowest empty spot in the column
         for (int row = ROWS - 1; row >= 0; row--) {
             if (board[row][column] == EMPTY) {
-                board[row][column] = player;
+                placePiece(row, column, player);
                 return true;
             }
         }
@@ -251,6 +323,33 @@ public class Connect4 {
         return copy;
     }
 
+    /**
+     * Gets the piece at a single cell without copying the board.
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @return The player number occupying the cell, or EMPTY.
+     */
+    public int getCell(int row, int col) {
+        return board[row][col];
+    }
+
+    /**
+     * Gets the row a piece dropped into a column would land in.
+     * @param col The column to drop into.
+     * @return The landing row, or -1 if the column is full or out of range.
+     */
+    public int getDropRow(int col) {
+        if (col < 0 || col >= COLUMNS) {
+            return -1;
+        }
+        for (int row = ROWS - 1; row >= 0; row--) {
+            if (board[row][col] == EMPTY) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Checks if a move is a winning move.
      * @param row The row of the move.
@@ -0,0 +1,140 @@
+package game;
+
+/**
+ * Connect4Snapshot class is an immutable, compact copy of a Connect4 position.
+ * Each player's pieces are packed into a long with one bit per cell at index
+ * col * (ROWS + 1) + (ROWS - 1 - row), so every column holds ROWS bits counted from
+ * the bottom plus one spare bit. Snapshots can be shared freely between threads.
+ */
+public final class Connect4Snapshot {
+    // Bit distance between neighbouring cells: vertical, diagonal down, horizontal, diagonal up
+    private static final int[] DIRECTIONS = {1, Connect4.ROWS, Connect4.ROWS + 1, Connect4.ROWS + 2};
+
+    private final long humanStones;
+    private final long aiStones;
+    private final int moveCount;
+    private final int currentPlayer;
+    private final int winner;
+
+    /**
+     * Constructor for Connect4Snapshot class.
+     * @param humanStones The human player's pieces.
+     * @param aiStones The AI player's pieces.
+     * @param moveCount The number of pieces on the board.
+     * @param currentPlayer The player whose turn it is.
+     * @param winner The winning player, or EMPTY if there is none.
+     */
+    Connect4Snapshot(long humanStones, long aiStones, int moveCount, int currentPlayer, int winner) {
+        this.humanStones = humanStones;
+        this.aiStones = aiStones;
+        this.moveCount = moveCount;
+        this.currentPlayer = currentPlayer;
+        this.winner = winner;
+    }
+
+    /**
+     * Gets the bit for a cell in the packed layout.
+     * @param row The row of the cell, 0 being the top row.
+     * @param col The column of the cell.
+     * @return The bit mask of the cell.
+     */
+    static long bit(int row, int col) {
+        return 1L << (col * (Connect4.ROWS + 1) + (Connect4.ROWS - 1 - row));
+    }
+
+    /**
+     * Checks packed pieces for four in a row in any direction.
+     * @param stones The packed pieces of one player.
+     * @return True if the pieces contain a line of four.
+     */
+    static boolean hasFour(long stones) {
+        for (int shift : DIRECTIONS) {
+            long pairs = stones & (stones >> shift);
+            if ((pairs & (pairs >> 2 * shift)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the pieces of a player.
+     * @param player The player number.
+     * @return The packed pieces of the player.
+     */
+    public long getStones(int player) {
+        if (player == Connect4.HUMAN_PLAYER) {
+            return humanStones;
+        } else if (player == Connect4.AI_PLAYER) {
+            return aiStones;
+        }
+        return 0;
+    }
+
+    /**
+     * Gets all pieces on the board.
+     * @return The packed pieces of both players.
+     */
+    public long getMask() {
+        return humanStones | aiStones;
+    }
+
+    /**
+     * Gets the piece at a single cell.
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @return The player number occupying the cell, or EMPTY.
+     */
+    public int getCell(int row, int col) {
+        long bit = bit(row, col);
+        if ((humanStones & bit) != 0) {
+            return Connect4.HUMAN_PLAYER;
+        } else if ((aiStones & bit) != 0) {
+            return Connect4.AI_PLAYER;
+        }
+        return Connect4.EMPTY;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    public int getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * Creates a new game at this position.
+     * @return A new Connect4 instance.
+     */
+    public Connect4 toGame() {
+        return new Connect4(this);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Connect4Snapshot)) {
+            return false;
+        }
+        Connect4Snapshot snapshot = (Connect4Snapshot) other;
+        return humanStones == snapshot.humanStones && aiStones == snapshot.aiStones
+                && moveCount == snapshot.moveCount && currentPlayer == snapshot.currentPlayer
+                && winner == snapshot.winner;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Long.hashCode(humanStones);
+        hash = 31 * hash + Long.hashCode(aiStones);
+        hash = 31 * hash + moveCount;
+        hash = 31 * hash + currentPlayer;
+        return 31 * hash + winner;
+    }
+}
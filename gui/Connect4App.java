@@ -1,6 +1,8 @@
 package gui;
 
+import javafx.animation.TranslateTransition;
 import javafx.application.Application;
+import javafx.concurrent.Task;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -15,6 +17,7 @@ import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import javafx.geometry.Pos;
 import javafx.scene.image.Image;
 import javafx.scene.layout.Background;
@@ -29,9 +32,14 @@ public class Connect4App extends Application {
     private static final int TILE_SIZE = 80;
     private static final int COLUMNS = 7;
     private static final int ROWS = 6;
+    private static final boolean ANIMATE_DROPS = true;
+    private static final Duration DROP_DURATION = Duration.millis(250);
+    private static Image backgroundImage;
     private Connect4 game;
     private AIPlayer aiPlayer;
     private Circle[][] circles;
+    private TranslateTransition[][] drops;
+    private boolean aiThinking;
     private BorderPane root;
 
     @Override
@@ -49,8 +57,7 @@ public class Connect4App extends Application {
         menuBox.getChildren().addAll(playButton);
 
         // Set background image
-        Image backgroundImage = new Image("file:src/Image.png");
-        BackgroundImage background = new BackgroundImage(backgroundImage, BackgroundRepeat.NO_REPEAT, BackgroundRepeat.NO_REPEAT, BackgroundPosition.CENTER, new BackgroundSize(BackgroundSize.AUTO, BackgroundSize.AUTO, false, false, true, true));
+        BackgroundImage background = new BackgroundImage(getBackgroundImage(), BackgroundRepeat.NO_REPEAT, BackgroundRepeat.NO_REPEAT, BackgroundPosition.CENTER, new BackgroundSize(BackgroundSize.AUTO, BackgroundSize.AUTO, false, false, true, true));
         menuBox.setBackground(new Background(background));
 
         root = new BorderPane();
@@ -60,10 +67,18 @@ public class Connect4App extends Application {
         primaryStage.show();
     }
 
-    // Start the game
+    // Load the background image once, in the background, so the window shows without waiting for it
+    private static Image getBackgroundImage() {
+        if (backgroundImage == null) {
+            backgroundImage = new Image("file:src/Image.png", true);
+        }
+        return backgroundImage;
+    }
+
+    // Start the game in the existing scene; later games reuse the board through resetGame
     private void startGame(Stage primaryStage) {
         setupGameInterface();
-        primaryStage.setScene(new Scene(root));
+        primaryStage.sizeToScene();
     }
 
     // Setup the game interface
@@ -71,6 +86,7 @@ public class Connect4App extends Application {
         game = new Connect4();
         aiPlayer = new AIPlayer(game);
         circles = new Circle[ROWS][COLUMNS];
+        drops = new TranslateTransition[ROWS][COLUMNS];
         root.setTop(createMenu());
 
         GridPane gridPane = new GridPane();
@@ -129,11 +145,12 @@ public class Connect4App extends Application {
         return menuBar;
     }
 
-    // Reset the game
+    // Reset the game, reusing the existing board nodes
     private void resetGame() {
         game = new Connect4();
         aiPlayer = new AIPlayer(game);
-        updateBoard();
+        aiThinking = false;
+        clearBoard();
     }
 
     // Show the about dialog
@@ -147,32 +164,80 @@ public class Connect4App extends Application {
 
     // Make a move in the game
     private void makeMove(int col) {
-        if (game.isValidMove(col)) {
+        if (!aiThinking && game.isValidMove(col)) {
+            int row = game.getDropRow(col);
             game.makeMove(col, Connect4.HUMAN_PLAYER);
-            updateBoard();
+            drawPiece(row, col);
             checkGameState();
 
             if (!game.isGameOver()) {
-                int aiMove = aiPlayer.findBestMove();
-                game.makeMove(aiMove, Connect4.AI_PLAYER);
-                updateBoard();
-                checkGameState();
+                playAiMove();
+            }
+        }
+    }
+
+    // Search for the AI move off the FX thread so the human's piece keeps dropping meanwhile
+    private void playAiMove() {
+        Connect4 searchedGame = game;
+        AIPlayer searchingPlayer = aiPlayer;
+        Task<Integer> search = new Task<Integer>() {
+            @Override
+            protected Integer call() {
+                return searchingPlayer.findBestMove();
+            }
+        };
+        search.setOnSucceeded(e -> {
+            // Ignore the result if a new game was started during the search
+            if (searchedGame != game) {
+                return;
+            }
+            aiThinking = false;
+            int aiMove = search.getValue();
+            int aiRow = game.getDropRow(aiMove);
+            game.makeMove(aiMove, Connect4.AI_PLAYER);
+            drawPiece(aiRow, aiMove);
+            checkGameState();
+        });
+        search.setOnFailed(e -> {
+            if (searchedGame == game) {
+                aiThinking = false;
+            }
+        });
+
+        aiThinking = true;
+        Thread thread = new Thread(search);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Redraw the single cell changed by a move, dropping it in from above the board
+    private void drawPiece(int row, int col) {
+        int player = game.getCell(row, col);
+        Circle circle = circles[row][col];
+        circle.setFill(player == Connect4.HUMAN_PLAYER ? Color.RED : player == Connect4.AI_PLAYER ? Color.YELLOW : Color.WHITE);
+
+        if (ANIMATE_DROPS) {
+            TranslateTransition drop = drops[row][col];
+            if (drop == null) {
+                drop = new TranslateTransition(DROP_DURATION, circle);
+                drop.setFromY(-(row + 1) * TILE_SIZE);
+                drop.setToY(0);
+                drops[row][col] = drop;
             }
+            circle.setTranslateY(-(row + 1) * TILE_SIZE);
+            drop.playFromStart();
         }
     }
 
-    // Update the game board
-    private void updateBoard() {
-        int[][] board = game.getBoard();
+    // Clear the board back to empty cells
+    private void clearBoard() {
         for (int row = 0; row < ROWS; row++) {
             for (int col = 0; col < COLUMNS; col++) {
-                if (board[row][col] == Connect4.HUMAN_PLAYER) {
-                    circles[row][col].setFill(Color.RED);
-                } else if (board[row][col] == Connect4.AI_PLAYER) {
-                    circles[row][col].setFill(Color.YELLOW);
-                } else {
-                    circles[row][col].setFill(Color.WHITE);
+                if (drops[row][col] != null) {
+                    drops[row][col].stop();
                 }
+                circles[row][col].setTranslateY(0);
+                circles[row][col].setFill(Color.WHITE);
             }
         }
     }